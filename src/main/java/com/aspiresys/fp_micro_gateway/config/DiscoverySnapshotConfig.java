@@ -0,0 +1,110 @@
+package com.aspiresys.fp_micro_gateway.config;
+
+import com.aspiresys.fp_micro_gateway.discovery.DiscoveryClientInstanceSource;
+import com.aspiresys.fp_micro_gateway.discovery.ServiceInstanceSnapshotRefresher;
+import com.aspiresys.fp_micro_gateway.discovery.ServiceInstanceSnapshotRegistry;
+import com.aspiresys.fp_micro_gateway.discovery.ServiceInstanceSource;
+import com.aspiresys.fp_micro_gateway.discovery.SnapshotLoadBalancerConfiguration;
+import com.aspiresys.fp_micro_gateway.discovery.SnapshotRouteDefinitionLocator;
+import com.aspiresys.fp_micro_gateway.discovery.StubInstanceSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of the service-discovery snapshot used for {@code lb://} routing.
+ * <p>
+ * Instead of asking the Eureka client for instances on every request, the load balancer reads
+ * them from a {@link ServiceInstanceSnapshotRegistry}. The registry is refreshed on a fixed delay,
+ * persisted to a local file, and reloaded from that file on startup. A
+ * {@link SnapshotRouteDefinitionLocator} builds the {@code /<service>/**} routes from the same
+ * snapshot, so routes exist on a cold start and during a Eureka outage, when the discovery locator
+ * has no services to build them from.
+ * </p>
+ *
+ * <ul>
+ *   <li>When <b>gateway.discovery.stub.enabled</b> is {@code true}, or no discovery client is
+ *   available, instances come from <b>gateway.discovery.stub.instances</b>.</li>
+ *   <li>Otherwise instances come from the application's {@link ReactiveDiscoveryClient} (Eureka).</li>
+ * </ul>
+ *
+ * Configuration Properties:
+ * <ul>
+ *   <li><b>gateway.discovery.snapshot.enabled</b>: enables the snapshot layer (default {@code true}).</li>
+ *   <li><b>gateway.discovery.snapshot.file</b>: file the snapshot is persisted to.</li>
+ *   <li><b>gateway.discovery.snapshot.refresh-interval-ms</b>: delay between refreshes.</li>
+ *   <li><b>gateway.discovery.snapshot.fetch-timeout-ms</b>: how long a refresh waits for the source.</li>
+ *   <li><b>gateway.discovery.snapshot.eviction-ttl-ms</b>: how long a service missing from successful refreshes is kept (default {@code 0}, evicted on the first such refresh).</li>
+ *   <li><b>gateway.discovery.snapshot.startup-grace-ms</b>: how long services loaded from the file are kept before a refresh confirms them.</li>
+ *   <li><b>gateway.discovery.snapshot.routes.enabled</b>: builds routes from the snapshot (default {@code true}).</li>
+ *   <li><b>gateway.discovery.stub.enabled</b>: serves the stub instances instead of Eureka.</li>
+ *   <li><b>gateway.discovery.stub.instances</b>: stub instances as {@code SERVICE-ID@scheme://host:port}.</li>
+ * </ul>
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "gateway.discovery.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = SnapshotLoadBalancerConfiguration.class)
+public class DiscoverySnapshotConfig {
+
+    @Value("${gateway.discovery.snapshot.file:./data/discovery-snapshot.json}")
+    private String snapshotFile;
+
+    @Value("${gateway.discovery.snapshot.fetch-timeout-ms:5000}")
+    private long fetchTimeoutMs;
+
+    @Value("${gateway.discovery.snapshot.eviction-ttl-ms:0}")
+    private long evictionTtlMs;
+
+    @Value("${gateway.discovery.snapshot.startup-grace-ms:120000}")
+    private long startupGraceMs;
+
+    @Value("${gateway.discovery.stub.enabled:false}")
+    private boolean stubEnabled;
+
+    @Value("${gateway.discovery.stub.instances:}")
+    private String[] stubInstances;
+
+    @Bean
+    public ServiceInstanceSource serviceInstanceSource(ObjectProvider<ReactiveDiscoveryClient> discoveryClient) {
+        ReactiveDiscoveryClient client = discoveryClient.getIfAvailable();
+        if (stubEnabled || client == null) {
+            return new StubInstanceSource(stubInstances);
+        }
+        return new DiscoveryClientInstanceSource(client);
+    }
+
+    @Bean
+    public ServiceInstanceSnapshotRegistry serviceInstanceSnapshotRegistry(ServiceInstanceSource serviceInstanceSource,
+                                                                           ObjectProvider<ObjectMapper> objectMapper) {
+        return new ServiceInstanceSnapshotRegistry(
+            serviceInstanceSource,
+            Path.of(snapshotFile),
+            objectMapper.getIfAvailable(ObjectMapper::new),
+            Duration.ofMillis(fetchTimeoutMs),
+            Duration.ofMillis(evictionTtlMs),
+            Duration.ofMillis(startupGraceMs));
+    }
+
+    @Bean
+    public ServiceInstanceSnapshotRefresher serviceInstanceSnapshotRefresher(ServiceInstanceSnapshotRegistry registry,
+                                                                             ApplicationEventPublisher eventPublisher) {
+        return new ServiceInstanceSnapshotRefresher(registry, eventPublisher);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "gateway.discovery.snapshot.routes.enabled", havingValue = "true", matchIfMissing = true)
+    public SnapshotRouteDefinitionLocator snapshotRouteDefinitionLocator(ServiceInstanceSnapshotRegistry registry) {
+        return new SnapshotRouteDefinitionLocator(registry);
+    }
+}
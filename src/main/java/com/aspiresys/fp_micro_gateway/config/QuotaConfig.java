@@ -0,0 +1,72 @@
+package com.aspiresys.fp_micro_gateway.config;
+
+import com.aspiresys.fp_micro_gateway.filter.UserQuotaFilter;
+import com.aspiresys.fp_micro_gateway.quota.UsageCounters;
+import com.aspiresys.fp_micro_gateway.quota.UsageFlusher;
+import com.aspiresys.fp_micro_gateway.quota.UsageStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.aspiresys.fp_micro_gateway.config.security.GatewayConstants.*;
+
+/**
+ * Configuration of the per-user daily request quotas.
+ * <p>
+ * Calls to the order and user services are counted in memory per JWT subject and route by
+ * {@link UsageCounters}, enforced by {@link UserQuotaFilter}, and appended in batches to a local
+ * {@link UsageStore} by {@link UsageFlusher}. Administrators can query the counters through
+ * {@code GET /gateway/usage/{userId}}.
+ * </p>
+ *
+ * Configuration Properties:
+ * <ul>
+ *   <li><b>gateway.quota.enabled</b>: enables counting and enforcement (default {@code true}).</li>
+ *   <li><b>gateway.quota.daily-limit</b>: calls allowed per user, route and UTC day.</li>
+ *   <li><b>gateway.quota.flush-interval-ms</b>: delay between flushes to the store.</li>
+ *   <li><b>gateway.quota.store-dir</b>: directory of the append-only usage files.</li>
+ * </ul>
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "gateway.quota.enabled", havingValue = "true", matchIfMissing = true)
+public class QuotaConfig {
+
+    @Value("${gateway.quota.daily-limit:10000}")
+    private long dailyLimit;
+
+    @Value("${gateway.quota.store-dir:./data/usage}")
+    private String storeDir;
+
+    @Bean
+    public UsageCounters usageCounters() {
+        return new UsageCounters(Clock.systemUTC(), dailyLimit);
+    }
+
+    @Bean
+    public UsageStore usageStore(ObjectProvider<ObjectMapper> objectMapper) {
+        return new UsageStore(Path.of(storeDir), objectMapper.getIfAvailable(() -> new ObjectMapper().findAndRegisterModules()));
+    }
+
+    @Bean
+    public UsageFlusher usageFlusher(UsageCounters usageCounters, UsageStore usageStore) {
+        return new UsageFlusher(usageCounters, usageStore);
+    }
+
+    @Bean
+    public UserQuotaFilter userQuotaFilter(UsageCounters usageCounters) {
+        Map<String, String> meteredRoutes = new LinkedHashMap<>();
+        meteredRoutes.put(QUOTA_ROUTE_ORDER_SERVICE, ORDER_SERVICE_BASE);
+        meteredRoutes.put(QUOTA_ROUTE_USER_SERVICE, USER_SERVICE_BASE);
+        return new UserQuotaFilter(usageCounters, meteredRoutes);
+    }
+}
@@ -41,6 +41,8 @@ public final class GatewayConstants {
     public static final String[] PUBLIC_GATEWAY_HEALTH = {"/gateway/health/public"};
     public static final String GATEWAY_HEALTH_USER = "/gateway/health/user";
     public static final String GATEWAY_HEALTH_ADMIN = "/gateway/health";
+    // Gateway usage
+    public static final String GATEWAY_USAGE_ADMIN = "/gateway/usage/**";
 
     // Product Service
     public static final String[] PUBLIC_PRODUCT_ENDPOINTS = {"/product-service/products/**", "/product-service/products"};
@@ -49,11 +51,18 @@ public final class GatewayConstants {
     // User Service
     public static final String[] PUBLIC_USER_HELLO_ENDPOINT = {"/user-service/users/hello"};
     public static final String USER_SERVICE_ME_BASE = "/user-service/users/me/**";
+    public static final String USER_SERVICE_BASE = "/user-service/**";
 
     // Order Service
     public static final String ORDER_SERVICE_ME_BASE = "/order-service/orders/me/**";
     public static final String ORDER_SERVICE_ORDERS = "/order-service/orders";
     public static final String ORDER_SERVICE_FIND = "/order-service/orders/find";
+    public static final String ORDER_SERVICE_BASE = "/order-service/**";
+
+    // === QUOTAS ===
+    // Routes whose calls are counted per user and capped by the daily quota
+    public static final String QUOTA_ROUTE_ORDER_SERVICE = "order-service";
+    public static final String QUOTA_ROUTE_USER_SERVICE = "user-service";
 
     // === ROLES ===
     public static final String ROLE_USER = "USER";
@@ -74,6 +74,7 @@ public class SecurityConfig {
                         .pathMatchers(PUBLIC_GATEWAY_HEALTH).permitAll()
                         .pathMatchers(GATEWAY_HEALTH_USER).hasAnyRole(ROLE_USER, ROLE_ADMIN)
                         .pathMatchers(GATEWAY_HEALTH_ADMIN).hasRole(ROLE_ADMIN)
+                        .pathMatchers(GATEWAY_USAGE_ADMIN).hasRole(ROLE_ADMIN)
 
                         // PRODUCT SERVICE ENDPOINTS
                         .pathMatchers(HttpMethod.GET, PUBLIC_PRODUCT_ENDPOINTS).permitAll()
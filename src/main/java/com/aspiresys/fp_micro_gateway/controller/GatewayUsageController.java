@@ -0,0 +1,47 @@
+package com.aspiresys.fp_micro_gateway.controller;
+
+import com.aspiresys.fp_micro_gateway.quota.UsageCounters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/gateway")
+@ConditionalOnProperty(name = "gateway.quota.enabled", havingValue = "true", matchIfMissing = true)
+public class GatewayUsageController {
+
+    @Autowired
+    private UsageCounters usageCounters;
+
+    /**
+     * Usage query endpoint for administrators.
+     * <p>
+     * Requires the user to have the 'ADMIN' role.
+     * Returns a JSON object with the queried user, the current UTC day, the daily quota per route,
+     * and today's call count per metered route. Counts are read from memory and include calls
+     * that have not been flushed to the usage store yet.
+     *
+     * @param userId the JWT subject to query
+     * @return a Mono containing a ResponseEntity with the user's usage for today
+     */
+    @GetMapping("/usage/{userId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<Map<String, Object>>> userUsage(@PathVariable String userId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("user", userId);
+        response.put("day", usageCounters.today());
+        response.put("dailyLimit", usageCounters.getDailyLimit());
+        response.put("usage", usageCounters.getUsage(userId));
+
+        return Mono.just(ResponseEntity.ok(response));
+    }
+}
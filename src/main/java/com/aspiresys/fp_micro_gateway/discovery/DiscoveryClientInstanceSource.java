@@ -0,0 +1,35 @@
+package com.aspiresys.fp_micro_gateway.discovery;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link ServiceInstanceSource} backed by the application's {@link ReactiveDiscoveryClient}.
+ * <p>
+ * With the Eureka client on the classpath this reads the client's locally cached registry, so a
+ * fetch does not go to the Eureka server itself. Instances are passed on as returned by the
+ * client; {@link ServiceInstanceSnapshot#merge} compares them with the current snapshot and only
+ * copies the ones that changed.
+ * </p>
+ */
+public class DiscoveryClientInstanceSource implements ServiceInstanceSource {
+
+    private final ReactiveDiscoveryClient discoveryClient;
+
+    public DiscoveryClientInstanceSource(ReactiveDiscoveryClient discoveryClient) {
+        this.discoveryClient = discoveryClient;
+    }
+
+    @Override
+    public Mono<Map<String, List<ServiceInstance>>> fetchInstances() {
+        return discoveryClient.getServices()
+            .flatMap(serviceId -> discoveryClient.getInstances(serviceId)
+                .collectList()
+                .map(instances -> Map.entry(serviceId, instances)))
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+}
@@ -0,0 +1,185 @@
+package com.aspiresys.fp_micro_gateway.discovery;
+
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable, indexed view of the service instances known to the gateway at a point in time.
+ * <p>
+ * Instances are indexed by service id (case-insensitive, since Eureka reports ids in upper case
+ * while {@code lb://} URIs are usually written in lower case). Every list handed out is
+ * unmodifiable and shared, so the load balancer can read it on each request without copying.
+ * </p>
+ *
+ * <h3>Merge policy:</h3>
+ * <ul>
+ *   <li>A service present in an update with at least one instance replaces the previous list.</li>
+ *   <li>A service listed as evicted is removed. The registry evicts services that successful
+ *   refreshes have stopped reporting (see {@link ServiceInstanceSnapshotRegistry}), so a retired
+ *   service stops receiving traffic, while a failed refresh evicts nothing.</li>
+ *   <li>If an update changes nothing, the same snapshot is returned and nothing is allocated, so
+ *   callers can skip the swap and the file write.</li>
+ * </ul>
+ */
+public final class ServiceInstanceSnapshot {
+
+    /**
+     * Snapshot with no instances, used before anything has been loaded or discovered.
+     */
+    public static final ServiceInstanceSnapshot EMPTY = new ServiceInstanceSnapshot(Map.of(), 0L, Instant.EPOCH);
+
+    private final Map<String, List<ServiceInstance>> instancesByService;
+    private final long version;
+    private final Instant createdAt;
+
+    private ServiceInstanceSnapshot(Map<String, List<ServiceInstance>> instancesByService, long version, Instant createdAt) {
+        this.instancesByService = instancesByService;
+        this.version = version;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Builds a snapshot from a map of service id to instances.
+     *
+     * @param instances the instances per service id
+     * @param version the version to assign to the snapshot
+     * @return a new immutable snapshot
+     */
+    public static ServiceInstanceSnapshot of(Map<String, ? extends List<? extends ServiceInstance>> instances, long version) {
+        Map<String, List<ServiceInstance>> index = new HashMap<>();
+        instances.forEach((serviceId, list) -> {
+            if (list != null && !list.isEmpty()) {
+                index.put(key(serviceId), copyOf(list));
+            }
+        });
+        return new ServiceInstanceSnapshot(Collections.unmodifiableMap(index), version, Instant.now());
+    }
+
+    /**
+     * Returns the instances registered for the given service id.
+     *
+     * @param serviceId the service id, in any case
+     * @return an unmodifiable list of instances, empty if the service is unknown
+     */
+    public List<ServiceInstance> getInstances(String serviceId) {
+        if (serviceId == null) {
+            return List.of();
+        }
+        return instancesByService.getOrDefault(key(serviceId), List.of());
+    }
+
+    /**
+     * Merges an update into this snapshot following the merge policy described above.
+     * <p>
+     * Incoming instances are compared field by field with the current ones and only copied when
+     * they differ; the new index is created on the first difference.
+     * </p>
+     *
+     * @param update the instances per service id reported by the source
+     * @param evicted the normalized service ids to remove (see {@link #key(String)})
+     * @return a new snapshot with an incremented version, or {@code this} if nothing changed
+     */
+    public ServiceInstanceSnapshot merge(Map<String, ? extends List<? extends ServiceInstance>> update, Set<String> evicted) {
+        Map<String, List<ServiceInstance>> merged = null;
+        for (Map.Entry<String, ? extends List<? extends ServiceInstance>> entry : update.entrySet()) {
+            List<? extends ServiceInstance> incoming = entry.getValue();
+            if (incoming == null || incoming.isEmpty()) {
+                continue;
+            }
+            String serviceKey = key(entry.getKey());
+            if (sameInstances(instancesByService.get(serviceKey), incoming)) {
+                continue;
+            }
+            if (merged == null) {
+                merged = new HashMap<>(instancesByService);
+            }
+            merged.put(serviceKey, copyOf(incoming));
+        }
+        for (String serviceKey : evicted) {
+            if (instancesByService.containsKey(serviceKey)) {
+                if (merged == null) {
+                    merged = new HashMap<>(instancesByService);
+                }
+                merged.remove(serviceKey);
+            }
+        }
+        if (merged == null) {
+            return this;
+        }
+        return new ServiceInstanceSnapshot(Collections.unmodifiableMap(merged), version + 1, Instant.now());
+    }
+
+    public Set<String> getServiceIds() {
+        return instancesByService.keySet();
+    }
+
+    public Map<String, List<ServiceInstance>> asMap() {
+        return instancesByService;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public boolean isEmpty() {
+        return instancesByService.isEmpty();
+    }
+
+    /**
+     * Normalizes a service id to the form used as index key.
+     */
+    static String key(String serviceId) {
+        return serviceId.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean sameInstances(List<ServiceInstance> current, List<? extends ServiceInstance> incoming) {
+        if (current == null || current.size() != incoming.size()) {
+            return false;
+        }
+        for (int i = 0; i < current.size(); i++) {
+            ServiceInstance a = current.get(i);
+            ServiceInstance b = incoming.get(i);
+            if (a.getPort() != b.getPort()
+                || a.isSecure() != b.isSecure()
+                || !Objects.equals(a.getHost(), b.getHost())
+                || !Objects.equals(a.getInstanceId(), b.getInstanceId())
+                || !Objects.equals(a.getServiceId(), b.getServiceId())
+                || !Objects.equals(a.getMetadata(), b.getMetadata() != null ? b.getMetadata() : Map.of())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies instances into {@link DefaultServiceInstance} values, detaching the snapshot from
+     * the source's (possibly mutable) instance objects.
+     */
+    private static List<ServiceInstance> copyOf(List<? extends ServiceInstance> instances) {
+        List<ServiceInstance> copies = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            copies.add(new DefaultServiceInstance(
+                instance.getInstanceId(),
+                instance.getServiceId(),
+                instance.getHost(),
+                instance.getPort(),
+                instance.isSecure(),
+                instance.getMetadata() != null ? Map.copyOf(instance.getMetadata()) : Map.of()));
+        }
+        return Collections.unmodifiableList(copies);
+    }
+}
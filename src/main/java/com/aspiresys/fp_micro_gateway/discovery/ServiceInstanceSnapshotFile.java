@@ -0,0 +1,86 @@
+package com.aspiresys.fp_micro_gateway.discovery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads and writes a {@link ServiceInstanceSnapshot} as JSON on the local file system.
+ * <p>
+ * Writes go to a temporary file next to the target that is then moved over it, so a crash in the
+ * middle of a write never leaves a truncated snapshot behind for the next start.
+ * </p>
+ */
+class ServiceInstanceSnapshotFile {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    ServiceInstanceSnapshotFile(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads the snapshot stored on disk.
+     *
+     * @return the stored snapshot, or empty if the file does not exist
+     * @throws IOException if the file exists but cannot be read or parsed
+     */
+    Optional<ServiceInstanceSnapshot> read() throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        StoredSnapshot stored = objectMapper.readValue(path.toFile(), StoredSnapshot.class);
+        Map<String, List<ServiceInstance>> instances = new HashMap<>();
+        for (StoredInstance instance : stored.instances()) {
+            instances.computeIfAbsent(instance.serviceId(), id -> new ArrayList<>())
+                .add(new DefaultServiceInstance(instance.instanceId(), instance.serviceId(),
+                    instance.host(), instance.port(), instance.secure(),
+                    instance.metadata() != null ? instance.metadata() : Map.of()));
+        }
+        return Optional.of(ServiceInstanceSnapshot.of(instances, stored.version()));
+    }
+
+    /**
+     * Writes the snapshot to disk, replacing any previous one.
+     *
+     * @param snapshot the snapshot to store
+     * @throws IOException if the file cannot be written
+     */
+    void write(ServiceInstanceSnapshot snapshot) throws IOException {
+        List<StoredInstance> instances = new ArrayList<>();
+        snapshot.asMap().values().forEach(list -> list.forEach(instance -> instances.add(new StoredInstance(
+            instance.getServiceId(), instance.getInstanceId(), instance.getHost(), instance.getPort(),
+            instance.isSecure(), instance.getMetadata()))));
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        objectMapper.writeValue(temp.toFile(), new StoredSnapshot(snapshot.getVersion(), instances));
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    record StoredSnapshot(long version, List<StoredInstance> instances) {
+    }
+
+    record StoredInstance(String serviceId, String instanceId, String host, int port, boolean secure,
+                          Map<String, String> metadata) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.aspiresys.fp_micro_gateway.discovery;
+
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Refreshes the {@link ServiceInstanceSnapshotRegistry} on a fixed delay.
+ * <p>
+ * The first refresh runs as soon as scheduling starts. Each run only subscribes to the refresh and
+ * returns, so the shared scheduler thread is never held while waiting for the source or the
+ * snapshot file. A run that starts while the previous refresh is still in flight is skipped.
+ * </p>
+ * <p>
+ * When the set of services in the snapshot changes, a {@link RefreshRoutesEvent} is published so
+ * the gateway rebuilds the routes of {@link SnapshotRouteDefinitionLocator}.
+ * </p>
+ */
+public class ServiceInstanceSnapshotRefresher {
+
+    private final ServiceInstanceSnapshotRegistry registry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+    private volatile Set<String> routedServices;
+
+    public ServiceInstanceSnapshotRefresher(ServiceInstanceSnapshotRegistry registry, ApplicationEventPublisher eventPublisher) {
+        this.registry = registry;
+        this.eventPublisher = eventPublisher;
+        this.routedServices = Set.copyOf(registry.getSnapshot().getServiceIds());
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.discovery.snapshot.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!inFlight.compareAndSet(false, true)) {
+            return;
+        }
+        registry.refresh()
+            .doOnNext(this::refreshRoutesIfServicesChanged)
+            .doFinally(signal -> inFlight.set(false))
+            .subscribe();
+    }
+
+    private void refreshRoutesIfServicesChanged(ServiceInstanceSnapshot snapshot) {
+        if (!snapshot.getServiceIds().equals(routedServices)) {
+            routedServices = Set.copyOf(snapshot.getServiceIds());
+            eventPublisher.publishEvent(new RefreshRoutesEvent(this));
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.aspiresys.fp_micro_gateway.discovery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the gateway's current {@link ServiceInstanceSnapshot} and keeps it up to date.
+ * <p>
+ * Request-path reads ({@link #getInstances(String)}) are a single volatile read plus a map lookup;
+ * they never wait on Eureka or on the disk. Refreshes fetch from the configured
+ * {@link ServiceInstanceSource}, merge the result into the current snapshot and swap it in
+ * atomically only when something actually changed. Each swap is persisted to a local file, and
+ * that file is loaded on startup so the gateway can route before the first refresh completes.
+ * </p>
+ *
+ * <h3>Failure handling:</h3>
+ * <ul>
+ *   <li>If the source fails or times out, the current snapshot is kept.</li>
+ *   <li>A service that a successful refresh no longer reports (or reports with no instances) is
+ *   evicted once it has gone unconfirmed for the eviction TTL. The default TTL is zero: the Eureka
+ *   client keeps its cached registry while the server is down, so a successful fetch that omits a
+ *   service means Eureka itself dropped it, and its route should go with it. A longer TTL keeps
+ *   routes across short deregistrations (e.g. a rolling restart of every instance) at the cost of
+ *   routing to a retired service for that long.</li>
+ *   <li>Services loaded from the file are protected for the startup grace period instead, because
+ *   right after startup the Eureka client may answer successfully before its first registry fetch
+ *   and report nothing.</li>
+ *   <li>If the snapshot file cannot be read or written, a warning is logged and the registry
+ *   keeps working in memory.</li>
+ * </ul>
+ */
+public class ServiceInstanceSnapshotRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceInstanceSnapshotRegistry.class);
+
+    private final ServiceInstanceSource source;
+    private final ServiceInstanceSnapshotFile snapshotFile;
+    private final Duration fetchTimeout;
+    private final Duration evictionTtl;
+    private final Duration startupGrace;
+    private final Clock clock;
+    private final Map<String, AtomicLong> confirmedAt = new ConcurrentHashMap<>();
+    private final AtomicReference<ServiceInstanceSnapshot> current = new AtomicReference<>(ServiceInstanceSnapshot.EMPTY);
+    private long persistedVersion = -1;
+
+    /**
+     * Creates the registry and loads the snapshot stored at {@code snapshotPath}, if any.
+     *
+     * @param source the source used on each refresh
+     * @param snapshotPath the file the snapshot is persisted to and loaded from
+     * @param objectMapper the mapper used to (de)serialize the snapshot file
+     * @param fetchTimeout how long a refresh waits for the source before keeping the current snapshot
+     * @param evictionTtl how long a service missing from successful refreshes is kept before it is evicted
+     * @param startupGrace how long services loaded from the file are kept without being confirmed
+     */
+    public ServiceInstanceSnapshotRegistry(ServiceInstanceSource source, Path snapshotPath, ObjectMapper objectMapper,
+                                           Duration fetchTimeout, Duration evictionTtl, Duration startupGrace) {
+        this(source, new ServiceInstanceSnapshotFile(snapshotPath, objectMapper), fetchTimeout, evictionTtl, startupGrace,
+            Clock.systemUTC());
+    }
+
+    ServiceInstanceSnapshotRegistry(ServiceInstanceSource source, ServiceInstanceSnapshotFile snapshotFile,
+                                    Duration fetchTimeout, Duration evictionTtl, Duration startupGrace, Clock clock) {
+        this.source = source;
+        this.snapshotFile = snapshotFile;
+        this.fetchTimeout = fetchTimeout;
+        this.evictionTtl = evictionTtl;
+        this.startupGrace = startupGrace;
+        this.clock = clock;
+        loadFromFile();
+    }
+
+    /**
+     * Returns the instances currently known for a service.
+     *
+     * @param serviceId the service id, in any case
+     * @return an unmodifiable list of instances, empty if the service is unknown
+     */
+    public List<ServiceInstance> getInstances(String serviceId) {
+        return current.get().getInstances(serviceId);
+    }
+
+    public ServiceInstanceSnapshot getSnapshot() {
+        return current.get();
+    }
+
+    /**
+     * Fetches instances from the source and swaps in a new snapshot if anything changed.
+     * <p>
+     * The snapshot file is written on a bounded-elastic thread, never on the caller's thread.
+     * </p>
+     *
+     * @return a Mono emitting the snapshot in effect after the refresh
+     */
+    public Mono<ServiceInstanceSnapshot> refresh() {
+        return source.fetchInstances()
+            .timeout(fetchTimeout)
+            .map(this::apply)
+            .publishOn(Schedulers.boundedElastic())
+            .doOnNext(this::persistIfNewer)
+            .onErrorResume(error -> {
+                log.warn("Service instance refresh failed, keeping snapshot v{}: {}",
+                    current.get().getVersion(), error.getMessage());
+                return Mono.just(current.get());
+            });
+    }
+
+    private ServiceInstanceSnapshot apply(Map<String, List<ServiceInstance>> update) {
+        long now = clock.millis();
+        update.forEach((serviceId, instances) -> {
+            if (instances != null && !instances.isEmpty()) {
+                confirmedAt.computeIfAbsent(ServiceInstanceSnapshot.key(serviceId), key -> new AtomicLong()).set(now);
+            }
+        });
+
+        Set<String> evicted = Set.of();
+        for (String serviceId : current.get().getServiceIds()) {
+            AtomicLong confirmed = confirmedAt.get(serviceId);
+            if (confirmed == null || now - confirmed.get() > evictionTtl.toMillis()) {
+                if (evicted.isEmpty()) {
+                    evicted = new HashSet<>();
+                }
+                evicted.add(serviceId);
+            }
+        }
+        if (!evicted.isEmpty()) {
+            evicted.forEach(confirmedAt::remove);
+            log.info("Evicting services missing from the source for more than {}: {}", evictionTtl, evicted);
+        }
+
+        Set<String> toEvict = evicted;
+        return current.updateAndGet(snapshot -> snapshot.merge(update, toEvict));
+    }
+
+    private void loadFromFile() {
+        try {
+            snapshotFile.read().ifPresent(snapshot -> {
+                current.set(snapshot);
+                persistedVersion = snapshot.getVersion();
+                // Counted as confirmed until the grace period runs out, whatever the eviction TTL
+                long graceConfirmation = clock.millis() + startupGrace.toMillis() - evictionTtl.toMillis();
+                snapshot.getServiceIds().forEach(serviceId -> confirmedAt.put(serviceId, new AtomicLong(graceConfirmation)));
+                log.info("Loaded service instance snapshot v{} with services {} from {}",
+                    snapshot.getVersion(), snapshot.getServiceIds(), snapshotFile.getPath());
+            });
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load service instance snapshot from {}: {}", snapshotFile.getPath(), e.getMessage());
+        }
+    }
+
+    private synchronized void persistIfNewer(ServiceInstanceSnapshot snapshot) {
+        // An emptied snapshot is written too, so evicted services are not reloaded on restart
+        if (snapshot.getVersion() <= persistedVersion || snapshot == ServiceInstanceSnapshot.EMPTY) {
+            return;
+        }
+        try {
+            snapshotFile.write(snapshot);
+            persistedVersion = snapshot.getVersion();
+            log.debug("Persisted service instance snapshot v{} to {}", snapshot.getVersion(), snapshotFile.getPath());
+        } catch (IOException e) {
+            log.warn("Could not persist service instance snapshot to {}: {}", snapshotFile.getPath(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.aspiresys.fp_micro_gateway.discovery;
+
+import org.springframework.cloud.client.ServiceInstance;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Source of service instances used to refresh the {@link ServiceInstanceSnapshotRegistry}.
+ * <p>
+ * Implementations return the instances currently known per service id. A successful fetch is
+ * taken as the complete list: a service it leaves out (or reports with no instances) is evicted
+ * once the registry's eviction TTL has passed, by default on the same refresh (see
+ * {@link ServiceInstanceSnapshot#merge(Map, java.util.Set)}). A source that cannot answer should
+ * fail instead, so the registry keeps its current snapshot.
+ * </p>
+ *
+ * <h3>Implementations:</h3>
+ * <ul>
+ *   <li>{@link DiscoveryClientInstanceSource}: backed by the reactive discovery client (Eureka).</li>
+ *   <li>{@link StubInstanceSource}: fixed instances from configuration, for running without Eureka.</li>
+ * </ul>
+ */
+public interface ServiceInstanceSource {
+
+    /**
+     * Fetches the instances currently known per service id.
+     *
+     * @return a Mono emitting the instances per service id
+     */
+    Mono<Map<String, List<ServiceInstance>>> fetchInstances();
+}
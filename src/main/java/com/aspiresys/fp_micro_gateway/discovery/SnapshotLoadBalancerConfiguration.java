@@ -0,0 +1,41 @@
+package com.aspiresys.fp_micro_gateway.discovery;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Default configuration for every load balancer client context.
+ * <p>
+ * Registered through {@code @LoadBalancerClients(defaultConfiguration = ...)} in
+ * {@link com.aspiresys.fp_micro_gateway.config.DiscoverySnapshotConfig}. It is intentionally
+ * <em>not</em> annotated with {@code @Configuration}: it must only be loaded into the per-service
+ * child contexts, where it replaces Spring Cloud's discovery-client based supplier.
+ * </p>
+ * <p>
+ * Spring Cloud's own client configuration is skipped when {@code spring.cloud.discovery.enabled}
+ * is {@code false} (the stub registry setup), so a round-robin load balancer is declared here as
+ * well; it backs off if another configuration already provides one.
+ * </p>
+ */
+public class SnapshotLoadBalancerConfiguration {
+
+    @Bean
+    public ServiceInstanceListSupplier snapshotServiceInstanceListSupplier(Environment environment,
+                                                                          ServiceInstanceSnapshotRegistry registry) {
+        return new SnapshotServiceInstanceListSupplier(LoadBalancerClientFactory.getName(environment), registry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ReactorLoadBalancer<ServiceInstance> snapshotReactorLoadBalancer(Environment environment,
+                                                                           ObjectProvider<ServiceInstanceListSupplier> suppliers) {
+        return new RoundRobinLoadBalancer(suppliers, LoadBalancerClientFactory.getName(environment));
+    }
+}
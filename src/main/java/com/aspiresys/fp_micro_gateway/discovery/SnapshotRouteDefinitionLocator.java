@@ -0,0 +1,62 @@
+package com.aspiresys.fp_micro_gateway.discovery;
+
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.support.NameUtils;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+
+/**
+ * {@link RouteDefinitionLocator} that creates one {@code lb://} route per service in the
+ * {@link ServiceInstanceSnapshotRegistry}.
+ * <p>
+ * Routes have the same shape as the ones built by Spring Cloud Gateway's discovery locator with
+ * {@code lower-case-service-id=true}: {@code /order-service/**} is forwarded to
+ * {@code lb://order-service} with the service prefix stripped. Because they come from the
+ * snapshot, they exist on a cold start with Eureka down (from the persisted file) and in stub
+ * mode, where the discovery locator has no services to build routes from.
+ * </p>
+ * <p>
+ * Routes use order {@value #ROUTE_ORDER}, so static routes and discovery locator routes (order 0)
+ * for the same path take precedence and these act as the fallback.
+ * </p>
+ */
+public class SnapshotRouteDefinitionLocator implements RouteDefinitionLocator {
+
+    public static final int ROUTE_ORDER = 1;
+    public static final String ROUTE_ID_PREFIX = "snapshot_";
+
+    private final ServiceInstanceSnapshotRegistry registry;
+
+    public SnapshotRouteDefinitionLocator(ServiceInstanceSnapshotRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Flux<RouteDefinition> getRouteDefinitions() {
+        return Flux.defer(() -> Flux.fromIterable(registry.getSnapshot().getServiceIds()))
+            .map(SnapshotRouteDefinitionLocator::routeFor);
+    }
+
+    private static RouteDefinition routeFor(String serviceId) {
+        PredicateDefinition path = new PredicateDefinition();
+        path.setName("Path");
+        path.addArg(NameUtils.generateName(0), "/" + serviceId + "/**");
+
+        FilterDefinition rewrite = new FilterDefinition();
+        rewrite.setName("RewritePath");
+        rewrite.addArg("regexp", "/" + serviceId + "/?(?<remaining>.*)");
+        rewrite.addArg("replacement", "/${remaining}");
+
+        RouteDefinition route = new RouteDefinition();
+        route.setId(ROUTE_ID_PREFIX + serviceId);
+        route.setUri(URI.create("lb://" + serviceId));
+        route.setOrder(ROUTE_ORDER);
+        route.getPredicates().add(path);
+        route.getFilters().add(rewrite);
+        return route;
+    }
+}
@@ -0,0 +1,36 @@
+package com.aspiresys.fp_micro_gateway.discovery;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * {@link ServiceInstanceListSupplier} that serves instances from the
+ * {@link ServiceInstanceSnapshotRegistry} instead of querying the discovery client per request.
+ * <p>
+ * Each subscription emits the list held by the current snapshot as-is; no copy is made and no
+ * call leaves the gateway.
+ * </p>
+ */
+public class SnapshotServiceInstanceListSupplier implements ServiceInstanceListSupplier {
+
+    private final String serviceId;
+    private final ServiceInstanceSnapshotRegistry registry;
+
+    public SnapshotServiceInstanceListSupplier(String serviceId, ServiceInstanceSnapshotRegistry registry) {
+        this.serviceId = serviceId;
+        this.registry = registry;
+    }
+
+    @Override
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return Flux.defer(() -> Flux.just(registry.getInstances(serviceId)));
+    }
+}
@@ -0,0 +1,106 @@
+package com.aspiresys.fp_micro_gateway.filter;
+
+import com.aspiresys.fp_micro_gateway.quota.UsageCounters;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * <strong>UserQuotaFilter</strong> is a global Spring Cloud Gateway filter that counts the calls each authenticated
+ * user makes to the metered routes (order and user services) and rejects them with HTTP 429 Too Many Requests once
+ * the daily quota is used up.
+ * </p>
+ *
+ * <p>
+ * The user is identified by the authenticated principal's name, i.e. the JWT subject that
+ * {@link JwtAuthenticationFilter} propagates downstream as <code>X-User-Id</code>. The header itself is not trusted
+ * because clients can send it on routes where that filter does not run. Anonymous requests and CORS preflight
+ * requests are not metered.
+ * </p>
+ *
+ * <h3>Response headers:</h3>
+ * <ul>
+ *   <li><code>X-Quota-Limit</code>: the daily quota per user and route.</li>
+ *   <li><code>X-Quota-Remaining</code>: calls left today after the current one.</li>
+ * </ul>
+ *
+ * <h3>Note:</h3>
+ * <p>Counting only touches in-memory counters ({@link UsageCounters}); persisting them is done in batches off the
+ * request path.</p>
+ */
+public class UserQuotaFilter implements GlobalFilter, Ordered {
+
+    public static final String QUOTA_LIMIT_HEADER = "X-Quota-Limit";
+    public static final String QUOTA_REMAINING_HEADER = "X-Quota-Remaining";
+
+    private final UsageCounters usageCounters;
+    private final Map<String, PathPattern> meteredRoutes = new LinkedHashMap<>();
+
+    /**
+     * @param usageCounters the counters used to track and enforce quotas
+     * @param meteredRoutes route name to path pattern, e.g. {@code order-service -> /order-service/**}
+     */
+    public UserQuotaFilter(UsageCounters usageCounters, Map<String, String> meteredRoutes) {
+        this.usageCounters = usageCounters;
+        meteredRoutes.forEach((route, pattern) -> this.meteredRoutes.put(route, PathPatternParser.defaultInstance.parse(pattern)));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (HttpMethod.OPTIONS.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+        String route = matchRoute(exchange.getRequest().getPath().pathWithinApplication());
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        return exchange.getPrincipal()
+            .map(Principal::getName)
+            .defaultIfEmpty("")
+            .flatMap(subject -> {
+                if (subject.isEmpty()) {
+                    return chain.filter(exchange);
+                }
+                long remaining = usageCounters.tryAcquire(subject, route);
+                exchange.getResponse().getHeaders().set(QUOTA_LIMIT_HEADER, String.valueOf(usageCounters.getDailyLimit()));
+                if (remaining < 0) {
+                    // Cuota diaria agotada
+                    exchange.getResponse().getHeaders().set(QUOTA_REMAINING_HEADER, "0");
+                    exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                    return exchange.getResponse().setComplete();
+                }
+                exchange.getResponse().getHeaders().set(QUOTA_REMAINING_HEADER, String.valueOf(remaining));
+                return chain.filter(exchange);
+            });
+    }
+
+    /**
+     * Runs early so rejected calls never reach the load balancer or the routing filters.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+
+    private String matchRoute(PathContainer path) {
+        for (Map.Entry<String, PathPattern> entry : meteredRoutes.entrySet()) {
+            if (entry.getValue().matches(path)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,135 @@
+package com.aspiresys.fp_micro_gateway.quota;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory, per-day call counters for each subject and metered route.
+ * <p>
+ * Counters are {@link LongAdder}s kept in a {@link ConcurrentHashMap}, so concurrent requests from
+ * the same user increment striped cells instead of contending on a lock or a single CAS. Each
+ * counter tracks two values:
+ * </p>
+ * <ul>
+ *   <li><b>total</b>: all calls of the day, used to enforce the quota and answer admin queries.</li>
+ *   <li><b>pending</b>: calls not yet written to the {@link UsageStore}, drained by
+ *   {@link #drainPending()} on each flush.</li>
+ * </ul>
+ * <p>
+ * Nothing here performs I/O, so {@link #tryAcquire(String, String)} is safe to call on the request
+ * path. The quota check is a soft limit: concurrent requests racing at the boundary can overshoot
+ * it by a few calls.
+ * </p>
+ */
+public class UsageCounters {
+
+    private final Map<Key, Counter> counters = new ConcurrentHashMap<>();
+    private final Clock clock;
+    private final long dailyLimit;
+
+    public UsageCounters(Clock clock, long dailyLimit) {
+        this.clock = clock;
+        this.dailyLimit = dailyLimit;
+    }
+
+    /**
+     * Counts a call if the subject is still under its daily quota for the route.
+     *
+     * @param subject the JWT subject making the call
+     * @param route the metered route name
+     * @return the number of calls left today after this one, or {@code -1} if the quota is exhausted
+     *         and the call was not counted
+     */
+    public long tryAcquire(String subject, String route) {
+        Counter counter = counters.computeIfAbsent(new Key(today(), subject, route), key -> new Counter());
+        if (counter.total.sum() >= dailyLimit) {
+            return -1;
+        }
+        counter.total.increment();
+        counter.pending.increment();
+        return Math.max(0, dailyLimit - counter.total.sum());
+    }
+
+    /**
+     * Returns today's call count per route for a subject.
+     *
+     * @param subject the JWT subject
+     * @return route name to number of calls, sorted by route name
+     */
+    public Map<String, Long> getUsage(String subject) {
+        LocalDate today = today();
+        Map<String, Long> usage = new TreeMap<>();
+        counters.forEach((key, counter) -> {
+            if (key.day().equals(today) && key.subject().equals(subject)) {
+                usage.put(key.route(), counter.total.sum());
+            }
+        });
+        return usage;
+    }
+
+    /**
+     * Takes every non-zero pending count, resetting it, and drops counters of past days once
+     * nothing is pending for them anymore.
+     *
+     * @return the pending deltas to append to the store
+     */
+    public List<UsageRecord> drainPending() {
+        LocalDate today = today();
+        List<UsageRecord> drained = new ArrayList<>();
+        counters.forEach((key, counter) -> {
+            long delta = counter.pending.sumThenReset();
+            if (delta > 0) {
+                drained.add(new UsageRecord(key.day(), key.subject(), key.route(), delta));
+            }
+        });
+        counters.entrySet().removeIf(entry -> entry.getKey().day().isBefore(today)
+            && entry.getValue().pending.sum() == 0);
+        return drained;
+    }
+
+    /**
+     * Puts deltas back as pending after a failed flush, so they are written on the next one.
+     *
+     * @param records the deltas returned by {@link #drainPending()}
+     */
+    public void restorePending(List<UsageRecord> records) {
+        for (UsageRecord record : records) {
+            counters.computeIfAbsent(new Key(record.day(), record.subject(), record.route()), key -> new Counter())
+                .pending.add(record.count());
+        }
+    }
+
+    /**
+     * Adds already persisted counts to the totals, e.g. when replaying the store on startup.
+     *
+     * @param records the persisted usage records
+     */
+    public void restoreTotals(List<UsageRecord> records) {
+        for (UsageRecord record : records) {
+            counters.computeIfAbsent(new Key(record.day(), record.subject(), record.route()), key -> new Counter())
+                .total.add(record.count());
+        }
+    }
+
+    public long getDailyLimit() {
+        return dailyLimit;
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    private record Key(LocalDate day, String subject, String route) {
+    }
+
+    private static final class Counter {
+        private final LongAdder total = new LongAdder();
+        private final LongAdder pending = new LongAdder();
+    }
+}
@@ -0,0 +1,65 @@
+package com.aspiresys.fp_micro_gateway.quota;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Moves usage counts between {@link UsageCounters} and the {@link UsageStore}.
+ * <p>
+ * On startup today's records are replayed into the counters so quotas survive a restart. Pending
+ * deltas are then appended in one batch on a fixed delay and once more on shutdown. A failed flush
+ * puts its deltas back as pending so they are retried on the next run instead of being lost.
+ * </p>
+ */
+public class UsageFlusher implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UsageFlusher.class);
+
+    private final UsageCounters counters;
+    private final UsageStore store;
+
+    public UsageFlusher(UsageCounters counters, UsageStore store) {
+        this.counters = counters;
+        this.store = store;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            List<UsageRecord> records = store.load(counters.today());
+            counters.restoreTotals(records);
+            log.info("Restored {} usage records for {} from {}", records.size(), counters.today(), store.getDirectory());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore usage records from {}: {}", store.getDirectory(), e.getMessage());
+        }
+    }
+
+    /**
+     * Appends every pending delta to the store in a single batch.
+     */
+    @Scheduled(fixedDelayString = "${gateway.quota.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        List<UsageRecord> pending = counters.drainPending();
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            store.append(pending);
+            log.debug("Flushed {} usage records to {}", pending.size(), store.getDirectory());
+        } catch (IOException e) {
+            counters.restorePending(pending);
+            log.warn("Could not flush {} usage records to {}: {}", pending.size(), store.getDirectory(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+}
@@ -0,0 +1,18 @@
+package com.aspiresys.fp_micro_gateway.quota;
+
+import java.time.LocalDate;
+
+/**
+ * Number of calls a subject made to a metered route on a given day.
+ * <p>
+ * Used both for the in-memory view returned to administrators and for the entries appended to
+ * the {@link UsageStore}, where {@code count} is the delta accumulated since the previous flush.
+ * </p>
+ *
+ * @param day the UTC day the calls belong to
+ * @param subject the JWT subject that made the calls
+ * @param route the metered route name, e.g. {@code order-service}
+ * @param count the number of calls
+ */
+public record UsageRecord(LocalDate day, String subject, String route, long count) {
+}
@@ -0,0 +1,129 @@
+package com.aspiresys.fp_micro_gateway.quota;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Append-only, local store for usage deltas.
+ * <p>
+ * Each day has its own JSON Lines file ({@code usage-YYYY-MM-DD.jsonl}) inside the configured
+ * directory, and every flush appends one line per {@link UsageRecord}. Summing the lines of a
+ * file gives the day's totals; old files can be archived or deleted without touching the gateway.
+ * </p>
+ * <p>
+ * All methods perform blocking file I/O and must not be called on the request path.
+ * </p>
+ */
+public class UsageStore {
+
+    private static final Logger log = LoggerFactory.getLogger(UsageStore.class);
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    public UsageStore(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Appends a batch of usage deltas, one line per record, to the file of each record's day.
+     *
+     * @param records the deltas to append
+     * @throws IOException if a file cannot be written
+     */
+    public void append(List<UsageRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        Map<LocalDate, List<UsageRecord>> byDay = new TreeMap<>();
+        records.forEach(record -> byDay.computeIfAbsent(record.day(), day -> new ArrayList<>()).add(record));
+
+        Files.createDirectories(directory);
+        for (Map.Entry<LocalDate, List<UsageRecord>> entry : byDay.entrySet()) {
+            Path file = fileFor(entry.getKey());
+            boolean tornLastLine = !endsWithNewLine(file);
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (tornLastLine) {
+                    // Start on a new line so the batch is not glued to a line cut short by a crash
+                    writer.newLine();
+                }
+                for (UsageRecord record : entry.getValue()) {
+                    writer.write(objectMapper.writeValueAsString(record));
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads every record appended for a day.
+     * <p>
+     * Lines that cannot be parsed (e.g. the last line torn by a crash during a flush) are skipped
+     * with a warning; the remaining records are still returned.
+     * </p>
+     *
+     * @param day the day to read
+     * @return the records in append order, empty if nothing was stored for that day
+     * @throws IOException if the file exists but cannot be read
+     */
+    public List<UsageRecord> load(LocalDate day) throws IOException {
+        Path file = fileFor(day);
+        if (!Files.isRegularFile(file)) {
+            return List.of();
+        }
+        List<UsageRecord> records = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                records.add(objectMapper.readValue(line, UsageRecord.class));
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping unreadable usage record at {}:{}: {}", file, lineNumber, e.getOriginalMessage());
+            }
+        }
+        return records;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private static boolean endsWithNewLine(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return true;
+        }
+        try (SeekableByteChannel channel = Files.newByteChannel(file, StandardOpenOption.READ)) {
+            if (channel.size() == 0) {
+                return true;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(last);
+            return last.get(0) == '\n';
+        }
+    }
+
+    private Path fileFor(LocalDate day) {
+        return directory.resolve("usage-" + day + ".jsonl");
+    }
+}
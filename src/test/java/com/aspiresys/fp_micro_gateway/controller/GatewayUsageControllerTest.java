@@ -0,0 +1,75 @@
+package com.aspiresys.fp_micro_gateway.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.aspiresys.fp_micro_gateway.config.TestSecurityConfig;
+import com.aspiresys.fp_micro_gateway.quota.UsageCounters;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+@WebFluxTest(controllers = GatewayUsageController.class)
+@Import({GatewayUsageController.class, TestSecurityConfig.class, GatewayUsageControllerTest.UsageTestConfig.class})
+@TestPropertySource(properties = {
+    "spring.cloud.config.enabled=false",
+    "eureka.client.enabled=false",
+    "spring.cloud.discovery.enabled=false",
+    "spring.config.import=",
+    "spring.security.oauth2.resourceserver.jwt.issuer-uri=http://localhost:8081"
+})
+class GatewayUsageControllerTest {
+
+    @TestConfiguration
+    static class UsageTestConfig {
+        @Bean
+        UsageCounters usageCounters() {
+            UsageCounters counters = new UsageCounters(
+                Clock.fixed(Instant.parse("2026-10-18T12:00:00Z"), ZoneOffset.UTC), 5);
+            counters.tryAcquire("user123", "order-service");
+            counters.tryAcquire("user123", "order-service");
+            return counters;
+        }
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void usageWithoutAuthentication() {
+        webTestClient.get()
+            .uri("/gateway/usage/user123")
+            .exchange()
+            .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void usageWithUserRoleIsForbidden() {
+        webTestClient.get()
+            .uri("/gateway/usage/user123")
+            .exchange()
+            .expectStatus().isForbidden();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void usageWithAdminRole() {
+        webTestClient.get()
+            .uri("/gateway/usage/user123")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.user").isEqualTo("user123")
+            .jsonPath("$.dailyLimit").isEqualTo(5)
+            .jsonPath("$.usage['order-service']").isEqualTo(2);
+    }
+}
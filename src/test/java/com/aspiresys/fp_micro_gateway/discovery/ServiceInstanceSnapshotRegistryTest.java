@@ -0,0 +1,187 @@
+package com.aspiresys.fp_micro_gateway.discovery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.client.ServiceInstance;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServiceInstanceSnapshotRegistryTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration EVICTION_TTL = Duration.ZERO;
+    private static final Duration STARTUP_GRACE = Duration.ofMinutes(2);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void refreshLoadsStubInstancesAndPersistsThem() {
+        Path file = tempDir.resolve("snapshot.json");
+        ServiceInstanceSnapshotRegistry registry = new ServiceInstanceSnapshotRegistry(
+            new StubInstanceSource("ORDER-SERVICE@http://localhost:8084", "ORDER-SERVICE@http://localhost:9084"),
+            file, new ObjectMapper(), TIMEOUT, EVICTION_TTL, STARTUP_GRACE);
+
+        registry.refresh().block();
+
+        List<ServiceInstance> instances = registry.getInstances("order-service");
+        assertEquals(2, instances.size());
+        assertEquals(8084, instances.get(0).getPort());
+        assertTrue(Files.exists(file));
+    }
+
+    @Test
+    void unchangedRefreshKeepsSameSnapshot() {
+        ServiceInstanceSnapshotRegistry registry = new ServiceInstanceSnapshotRegistry(
+            new StubInstanceSource("PRODUCT-SERVICE@http://localhost:8083"),
+            tempDir.resolve("snapshot.json"), new ObjectMapper(), TIMEOUT, EVICTION_TTL, STARTUP_GRACE);
+
+        ServiceInstanceSnapshot first = registry.refresh().block();
+        ServiceInstanceSnapshot second = registry.refresh().block();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void restartServesPersistedInstancesWhenSourceFails() {
+        Path file = tempDir.resolve("snapshot.json");
+        new ServiceInstanceSnapshotRegistry(
+            new StubInstanceSource("USER-SERVICE@http://localhost:8082"),
+            file, new ObjectMapper(), TIMEOUT, EVICTION_TTL, STARTUP_GRACE).refresh().block();
+
+        ServiceInstanceSource failing = () -> Mono.error(new IllegalStateException("Eureka unavailable"));
+        ServiceInstanceSnapshotRegistry restarted = new ServiceInstanceSnapshotRegistry(
+            failing, file, new ObjectMapper(), TIMEOUT, EVICTION_TTL, STARTUP_GRACE);
+        restarted.refresh().block();
+
+        assertEquals(1, restarted.getInstances("USER-SERVICE").size());
+        assertEquals("localhost", restarted.getInstances("USER-SERVICE").get(0).getHost());
+    }
+
+    @Test
+    void serviceMissingFromSuccessfulRefreshIsEvictedAndRemovedFromFile() {
+        Path file = tempDir.resolve("snapshot.json");
+        MutableSource source = new MutableSource();
+        source.instances = new StubInstanceSource(
+            "PRODUCT-SERVICE@http://localhost:8083", "RETIRED-SERVICE@http://localhost:8099").fetchInstances().block();
+        MutableClock clock = new MutableClock();
+        ServiceInstanceSnapshotRegistry registry = new ServiceInstanceSnapshotRegistry(source,
+            new ServiceInstanceSnapshotFile(file, new ObjectMapper()), TIMEOUT, EVICTION_TTL, STARTUP_GRACE, clock);
+        registry.refresh().block();
+        assertEquals(1, registry.getInstances("retired-service").size());
+
+        Map<String, List<ServiceInstance>> withoutRetired = new HashMap<>(source.instances);
+        withoutRetired.put("RETIRED-SERVICE", List.of());
+        source.instances = withoutRetired;
+        clock.advance(Duration.ofSeconds(30));
+        registry.refresh().block();
+
+        assertTrue(registry.getInstances("retired-service").isEmpty());
+        assertEquals(1, registry.getInstances("product-service").size());
+
+        ServiceInstanceSnapshotRegistry restarted = new ServiceInstanceSnapshotRegistry(
+            () -> Mono.error(new IllegalStateException("Eureka unavailable")), file, new ObjectMapper(),
+            TIMEOUT, EVICTION_TTL, STARTUP_GRACE);
+        assertEquals(Set.of("product-service"), restarted.getSnapshot().getServiceIds());
+    }
+
+    @Test
+    void failedRefreshEvictsNothing() {
+        MutableClock clock = new MutableClock();
+        MutableSource source = new MutableSource();
+        source.instances = new StubInstanceSource("PRODUCT-SERVICE@http://localhost:8083").fetchInstances().block();
+        ServiceInstanceSnapshotRegistry registry = new ServiceInstanceSnapshotRegistry(source,
+            new ServiceInstanceSnapshotFile(tempDir.resolve("snapshot.json"), new ObjectMapper()),
+            TIMEOUT, EVICTION_TTL, STARTUP_GRACE, clock);
+        registry.refresh().block();
+
+        source.failure = new IllegalStateException("Eureka unavailable");
+        clock.advance(Duration.ofHours(1));
+        registry.refresh().block();
+
+        assertEquals(1, registry.getInstances("product-service").size());
+    }
+
+    @Test
+    void persistedServicesAreKeptForStartupGraceUntilConfirmed() {
+        Path file = tempDir.resolve("snapshot.json");
+        new ServiceInstanceSnapshotRegistry(
+            new StubInstanceSource("USER-SERVICE@http://localhost:8082"),
+            file, new ObjectMapper(), TIMEOUT, EVICTION_TTL, STARTUP_GRACE).refresh().block();
+
+        // Cliente Eureka recién arrancado: responde sin servicios antes de su primer fetch
+        MutableSource source = new MutableSource();
+        MutableClock clock = new MutableClock();
+        ServiceInstanceSnapshotRegistry restarted = new ServiceInstanceSnapshotRegistry(source,
+            new ServiceInstanceSnapshotFile(file, new ObjectMapper()), TIMEOUT, EVICTION_TTL, STARTUP_GRACE, clock);
+
+        clock.advance(STARTUP_GRACE.minusSeconds(1));
+        restarted.refresh().block();
+        assertEquals(1, restarted.getInstances("user-service").size());
+
+        clock.advance(Duration.ofSeconds(2));
+        restarted.refresh().block();
+        assertTrue(restarted.getInstances("user-service").isEmpty());
+    }
+
+    @Test
+    void unchangedMergeReturnsSameSnapshot() {
+        ServiceInstanceSnapshot snapshot = ServiceInstanceSnapshot.EMPTY.merge(
+            new StubInstanceSource("PRODUCT-SERVICE@http://localhost:8083").fetchInstances().block(), Set.of());
+
+        ServiceInstanceSnapshot merged = snapshot.merge(
+            new StubInstanceSource("PRODUCT-SERVICE@http://localhost:8083").fetchInstances().block(), Set.of());
+
+        assertSame(snapshot, merged);
+        assertEquals(1, merged.getInstances("product-service").size());
+    }
+
+    private static final class MutableSource implements ServiceInstanceSource {
+        private Map<String, List<ServiceInstance>> instances = Map.of();
+        private RuntimeException failure;
+
+        @Override
+        public Mono<Map<String, List<ServiceInstance>>> fetchInstances() {
+            return failure != null ? Mono.error(failure) : Mono.just(instances);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-10-18T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.aspiresys.fp_micro_gateway.discovery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Verifies that routes are built from the discovery snapshot with discovery disabled: from the
+ * persisted snapshot file on startup, and from the stub registry after the first refresh.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SnapshotRoutingTest {
+
+    private static HttpServer backend;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws Exception {
+        backend = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        backend.createContext("/", exchange -> {
+            // Devuelve la ruta recibida para verificar el RewritePath
+            byte[] body = exchange.getRequestURI().getPath().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        backend.start();
+        int port = backend.getAddress().getPort();
+
+        Path dataDir = Files.createTempDirectory("snapshot-routing-test");
+        Path snapshotFile = dataDir.resolve("discovery-snapshot.json");
+        new ServiceInstanceSnapshotFile(snapshotFile, new ObjectMapper()).write(ServiceInstanceSnapshot.of(Map.of(
+            "PRODUCT-SERVICE", List.of(new DefaultServiceInstance("product-1", "PRODUCT-SERVICE", "localhost", port, false))), 1));
+
+        registry.add("spring.main.web-application-type", () -> "reactive");
+        registry.add("spring.config.import", () -> "");
+        registry.add("service.env.auth.server", () -> "http://localhost:" + port);
+        registry.add("service.env.frontend.server", () -> "http://localhost:3000");
+        registry.add("gateway.discovery.snapshot.file", snapshotFile::toString);
+        registry.add("gateway.discovery.stub.enabled", () -> "true");
+        registry.add("gateway.discovery.stub.instances", () -> "USER-SERVICE@http://localhost:" + port);
+        registry.add("gateway.quota.store-dir", () -> dataDir.resolve("usage").toString());
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.stop(0);
+    }
+
+    @Test
+    void routeResolvesFromPersistedSnapshot() {
+        webTestClient.get()
+            .uri("/product-service/products")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).isEqualTo("/products");
+    }
+
+    @Test
+    void routeResolvesFromStubRegistry() {
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> webTestClient.get()
+            .uri("/user-service/users/hello")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).isEqualTo("/users/hello"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.aspiresys.fp_micro_gateway.filter;
+
+import com.aspiresys.fp_micro_gateway.quota.UsageCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserQuotaFilterTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-18T12:00:00Z"), ZoneOffset.UTC);
+    private static final Principal USER = () -> "user123";
+
+    private UsageCounters counters;
+    private UserQuotaFilter filter;
+    private AtomicInteger chainCalls;
+    private GatewayFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        counters = new UsageCounters(CLOCK, 2);
+        filter = new UserQuotaFilter(counters, Map.of(
+            "order-service", "/order-service/**",
+            "user-service", "/user-service/**"));
+        chainCalls = new AtomicInteger();
+        chain = exchange -> {
+            chainCalls.incrementAndGet();
+            return Mono.empty();
+        };
+    }
+
+    @Test
+    void authenticatedCallIsCountedAndGetsQuotaHeaders() {
+        ServerWebExchange exchange = withPrincipal(MockServerHttpRequest.get("/order-service/orders/me"), USER);
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(1, chainCalls.get());
+        assertEquals("2", exchange.getResponse().getHeaders().getFirst(UserQuotaFilter.QUOTA_LIMIT_HEADER));
+        assertEquals("1", exchange.getResponse().getHeaders().getFirst(UserQuotaFilter.QUOTA_REMAINING_HEADER));
+        assertEquals(Map.of("order-service", 1L), counters.getUsage("user123"));
+    }
+
+    @Test
+    void exhaustedQuotaIsRejectedWith429() {
+        counters.tryAcquire("user123", "order-service");
+        counters.tryAcquire("user123", "order-service");
+        ServerWebExchange exchange = withPrincipal(MockServerHttpRequest.get("/order-service/orders/me"), USER);
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(0, chainCalls.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+        assertEquals("2", exchange.getResponse().getHeaders().getFirst(UserQuotaFilter.QUOTA_LIMIT_HEADER));
+        assertEquals("0", exchange.getResponse().getHeaders().getFirst(UserQuotaFilter.QUOTA_REMAINING_HEADER));
+    }
+
+    @Test
+    void anonymousCallIsNotMetered() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/order-service/orders/me"));
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(1, chainCalls.get());
+        assertFalse(exchange.getResponse().getHeaders().containsKey(UserQuotaFilter.QUOTA_LIMIT_HEADER));
+        assertTrue(counters.drainPending().isEmpty());
+    }
+
+    @Test
+    void preflightIsNotMetered() {
+        ServerWebExchange exchange = withPrincipal(MockServerHttpRequest.options("/order-service/orders/me")
+            .header(HttpHeaders.ORIGIN, "http://localhost:3000")
+            .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "GET"), USER);
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(1, chainCalls.get());
+        assertNull(exchange.getResponse().getHeaders().getFirst(UserQuotaFilter.QUOTA_REMAINING_HEADER));
+        assertTrue(counters.getUsage("user123").isEmpty());
+    }
+
+    @Test
+    void unmeteredPathPassesThrough() {
+        ServerWebExchange exchange = withPrincipal(MockServerHttpRequest.get("/product-service/products"), USER);
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(1, chainCalls.get());
+        assertNull(exchange.getResponse().getHeaders().getFirst(UserQuotaFilter.QUOTA_LIMIT_HEADER));
+        assertTrue(counters.getUsage("user123").isEmpty());
+    }
+
+    @Test
+    void subjectComesFromPrincipalNotFromClientHeader() {
+        ServerWebExchange exchange = withPrincipal(MockServerHttpRequest.get("/user-service/users/me")
+            .header("X-User-Id", "someone-else"), USER);
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(Map.of("user-service", 1L), counters.getUsage("user123"));
+        assertTrue(counters.getUsage("someone-else").isEmpty());
+    }
+
+    private static ServerWebExchange withPrincipal(MockServerHttpRequest.BaseBuilder<?> request, Principal principal) {
+        return MockServerWebExchange.from(request).mutate().principal(Mono.just(principal)).build();
+    }
+}
@@ -0,0 +1,230 @@
+package com.aspiresys.fp_micro_gateway.loadtest;
+
+import com.aspiresys.fp_micro_gateway.discovery.ServiceInstanceSnapshotRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test suite for the gateway.
+ * <p>
+ * Starts the full gateway on a random port against a local {@link StubJwksIssuer} and
+ * {@link StubBackend}s registered through the stub discovery registry, then runs each scripted
+ * scenario and compares its throughput, tail latency and allocation rate with
+ * {@code src/test/resources/loadtest/baselines.properties}.
+ * </p>
+ * <p>
+ * No routes are added for the test: product and order traffic goes through the routes built from
+ * the discovery snapshot, and the {@code /api/**} scenario through the route in
+ * {@link com.aspiresys.fp_micro_gateway.config.GatewayConfig}, which runs
+ * {@link com.aspiresys.fp_micro_gateway.filter.JwtAuthenticationFilter}.
+ * </p>
+ *
+ * <h3>Running:</h3>
+ * <pre>
+ * mvn -P load-test test
+ * mvn -P load-test test -Dloadtest.scale=0.2   # shorter run
+ * mvn -P load-test test -Dloadtest.record=true  # record baselines
+ * </pre>
+ * <p>
+ * Results are written to {@code target/loadtest/results.properties} in the baselines format. A
+ * scenario without a stored baseline fails. To record or refresh the baselines (on the reference
+ * machine, after an intended performance change), run with {@code -Dloadtest.record=true}: the
+ * results, with a description of the reference setup, are then written to
+ * {@code src/test/resources/loadtest/baselines.properties} and nothing is compared. Nothing is
+ * recorded unless every scenario completed without unexpected responses.
+ * </p>
+ */
+@Tag("load")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class GatewayLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(GatewayLoadTest.class);
+
+    private static final String FRONTEND_ORIGIN = "http://localhost:3000";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final Path RESULTS_FILE = Path.of("target", "loadtest", "results.properties");
+    private static final boolean RECORD = Boolean.getBoolean("loadtest.record");
+    private static final int SCENARIOS = 5;
+
+    private static StubJwksIssuer issuer;
+    private static StubBackend authService;
+    private static StubBackend productService;
+    private static StubBackend orderService;
+    private static StubBackend apiService;
+    private static LoadBaselines baselines;
+    private static final List<LoadResult> results = new ArrayList<>();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ServiceInstanceSnapshotRegistry snapshotRegistry;
+
+    private final LoadRunner runner = new LoadRunner();
+    private final double scale = Double.parseDouble(System.getProperty("loadtest.scale", "1.0"));
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws Exception {
+        issuer = new StubJwksIssuer();
+        authService = new StubBackend("auth-service");
+        productService = new StubBackend("product-service");
+        orderService = new StubBackend("order-service");
+        apiService = new StubBackend("microservice-name");
+        Path dataDir = Files.createTempDirectory("gateway-load-test");
+
+        registry.add("spring.main.web-application-type", () -> "reactive");
+        // Tomcat is the embedded server (WAR packaging); keeps its workers alive so no sampled allocation is lost
+        registry.add("server.tomcat.threads.min-spare", () -> "200");
+        registry.add("spring.security.oauth2.resourceserver.jwt.issuer-uri", issuer::getIssuerUri);
+        registry.add("spring.security.oauth2.resourceserver.jwt.jwk-set-uri", issuer::getJwkSetUri);
+        registry.add("service.env.auth.server", authService::getUri);
+        registry.add("service.env.frontend.server", () -> FRONTEND_ORIGIN);
+
+        registry.add("gateway.discovery.stub.enabled", () -> "true");
+        registry.add("gateway.discovery.stub.instances", () ->
+            "PRODUCT-SERVICE@" + productService.getUri()
+                + ",ORDER-SERVICE@" + orderService.getUri()
+                + ",MICROSERVICE-NAME@" + apiService.getUri());
+        registry.add("gateway.discovery.snapshot.file", () -> dataDir.resolve("discovery-snapshot.json").toString());
+        registry.add("gateway.discovery.snapshot.refresh-interval-ms", () -> "1000");
+        registry.add("gateway.quota.store-dir", () -> dataDir.resolve("usage").toString());
+        registry.add("gateway.quota.daily-limit", () -> String.valueOf(Long.MAX_VALUE));
+    }
+
+    @BeforeAll
+    static void loadBaselines() throws Exception {
+        baselines = LoadBaselines.load();
+    }
+
+    @AfterAll
+    static void writeResults() throws Exception {
+        results.forEach(result -> log.info("{}", result));
+        baselines.write(RESULTS_FILE, results);
+        if (RECORD && results.size() == SCENARIOS) {
+            baselines.write(LoadBaselines.SOURCE_FILE, results);
+            log.info("Recorded load test baselines to {}", LoadBaselines.SOURCE_FILE);
+        } else if (RECORD) {
+            log.warn("Not recording load test baselines: only {} of {} scenarios passed", results.size(), SCENARIOS);
+        }
+        issuer.close();
+        authService.close();
+        productService.close();
+        orderService.close();
+        apiService.close();
+    }
+
+    @BeforeEach
+    void awaitSnapshotRoutes() {
+        // Las rutas de producto, orden y /api/** existen tras el primer refresh del registro stub
+        await().atMost(Duration.ofSeconds(10)).until(() -> snapshotRegistry.getSnapshot().getServiceIds().size() == 3);
+    }
+
+    @Test
+    @Order(1)
+    void publicCatalogBurst() throws Exception {
+        run(new LoadScenario("public-catalog-burst", 64, 2_000, 20_000, 200, List.of(
+            get("/product-service/products").build())));
+    }
+
+    @Test
+    @Order(2)
+    void authenticatedOrderMix() throws Exception {
+        List<HttpRequest> mix = new ArrayList<>();
+        for (int user = 1; user <= 4; user++) {
+            String token = issuer.token("load-user-" + user, "USER");
+            mix.add(get("/order-service/orders/me").header("Authorization", "Bearer " + token).build());
+            mix.add(get("/order-service/orders/me").header("Authorization", "Bearer " + token).build());
+            mix.add(request("/order-service/orders/me")
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"productId\":1,\"quantity\":1}"))
+                .build());
+        }
+        mix.add(get("/order-service/orders").header("Authorization", "Bearer " + issuer.token("load-admin", "ADMIN")).build());
+        run(new LoadScenario("authenticated-order-mix", 32, 1_000, 10_000, 200, mix));
+    }
+
+    @Test
+    @Order(3)
+    void authenticatedApiMix() throws Exception {
+        List<HttpRequest> mix = new ArrayList<>();
+        for (int user = 1; user <= 4; user++) {
+            String token = issuer.token("load-user-" + user, "USER");
+            mix.add(get("/api/items").header("Authorization", "Bearer " + token).build());
+            mix.add(request("/api/items")
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"item\"}"))
+                .build());
+        }
+        run(new LoadScenario("authenticated-api-mix", 32, 1_000, 10_000, 200, mix));
+    }
+
+    @Test
+    @Order(4)
+    void invalidTokenFlood() throws Exception {
+        String token = issuer.invalidToken("load-attacker", "USER");
+        run(new LoadScenario("invalid-token-flood", 64, 2_000, 20_000, 401, List.of(
+            get("/order-service/orders/me").header("Authorization", "Bearer " + token).build())));
+    }
+
+    @Test
+    @Order(5)
+    void preflightStorm() throws Exception {
+        run(new LoadScenario("preflight-storm", 64, 2_000, 20_000, 200, List.of(
+            request("/product-service/products")
+                .header("Origin", FRONTEND_ORIGIN)
+                .header("Access-Control-Request-Method", "POST")
+                .header("Access-Control-Request-Headers", "authorization,content-type")
+                .method("OPTIONS", HttpRequest.BodyPublishers.noBody())
+                .build())));
+    }
+
+    private void run(LoadScenario scenario) throws InterruptedException {
+        LoadResult result = runner.run(scenario.scaled(scale));
+        assertEquals(0, result.errors(), "Unexpected responses in " + result);
+        results.add(result);
+        if (RECORD) {
+            return;
+        }
+        assertTrue(baselines.hasBaseline(result.scenario()), "No baseline for " + result.scenario()
+            + "; record one on the reference machine with -Dloadtest.record=true and commit "
+            + LoadBaselines.SOURCE_FILE);
+        List<String> regressions = baselines.regressions(result);
+        assertTrue(regressions.isEmpty(), "Performance regression: " + String.join("; ", regressions));
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return request(path).GET();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(REQUEST_TIMEOUT);
+    }
+}
@@ -0,0 +1,142 @@
+package com.aspiresys.fp_micro_gateway.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.StringJoiner;
+
+/**
+ * Stored reference results that load test runs are compared against.
+ * <p>
+ * Baselines live in {@code src/test/resources/loadtest/baselines.properties} as
+ * {@code <scenario>.<metric>=<value>} entries plus a global {@code tolerance}. A run regresses when
+ * throughput falls below {@code baseline * (1 - tolerance)} or when a latency or allocation figure
+ * rises above {@code baseline * (1 + tolerance)}. The median is recorded but not enforced, since
+ * it hides tail regressions and is the noisiest figure on shared CI machines. The allocation rate
+ * is recorded but not enforced either: it grows with throughput, so allocation is enforced per
+ * request.
+ * </p>
+ * <p>
+ * Baselines are only meaningful on the machine and JVM settings they were recorded with, so the
+ * file starts with a description of that reference setup (see {@link #referenceSetup()}).
+ * </p>
+ */
+class LoadBaselines {
+
+    static final String RESOURCE = "/loadtest/baselines.properties";
+    static final Path SOURCE_FILE = Path.of("src", "test", "resources", "loadtest", "baselines.properties");
+
+    private static final List<String> HIGHER_IS_WORSE = List.of(LoadResult.P99, LoadResult.P999, LoadResult.ALLOCATION);
+
+    /**
+     * Explanation written at the top of every generated file, so re-recording keeps it.
+     */
+    private static final List<String> HEADER = List.of(
+        "Load test baselines, compared by GatewayLoadTest (mvn -P load-test test).",
+        "",
+        "A run fails when throughput drops below baseline * (1 - tolerance), or when p99, p999 or",
+        "allocation per request rise above baseline * (1 + tolerance). p50 and the allocation rate are",
+        "recorded only. A scenario without a baseline fails. Re-record on the reference machine with",
+        "",
+        "  mvn -P load-test test -Dloadtest.record=true",
+        "",
+        "and commit this file. The JVM settings are fixed in the load-test profile's surefire argLine.",
+        "");
+
+    private final Properties baselines;
+    private final double tolerance;
+
+    private LoadBaselines(Properties baselines) {
+        this.baselines = baselines;
+        this.tolerance = Double.parseDouble(baselines.getProperty("tolerance", "0.20"));
+    }
+
+    static LoadBaselines load() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = LoadBaselines.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        }
+        return new LoadBaselines(properties);
+    }
+
+    /**
+     * Returns whether a baseline has been recorded for the scenario.
+     */
+    boolean hasBaseline(String scenario) {
+        return baselines.containsKey(scenario + "." + LoadResult.THROUGHPUT);
+    }
+
+    /**
+     * Compares a result with its baseline.
+     *
+     * @return a description of each regressed metric, empty if the run is within tolerance
+     */
+    List<String> regressions(LoadResult result) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Double> metric : result.metrics().entrySet()) {
+            String value = baselines.getProperty(result.scenario() + "." + metric.getKey());
+            if (value == null) {
+                continue;
+            }
+            double baseline = Double.parseDouble(value);
+            double measured = metric.getValue();
+            if (LoadResult.THROUGHPUT.equals(metric.getKey()) && measured < baseline * (1 - tolerance)) {
+                regressions.add(describe(result.scenario(), metric.getKey(), measured, baseline));
+            } else if (HIGHER_IS_WORSE.contains(metric.getKey()) && measured > baseline * (1 + tolerance)) {
+                regressions.add(describe(result.scenario(), metric.getKey(), measured, baseline));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Writes results in the baselines format, e.g. to refresh the stored baselines after an
+     * intended performance change.
+     */
+    void write(Path file, Collection<LoadResult> results) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (String line : HEADER) {
+                writer.write(("# " + line).stripTrailing() + System.lineSeparator());
+            }
+            writer.write("# Reference setup: " + referenceSetup() + System.lineSeparator());
+            writer.write("tolerance=" + tolerance + System.lineSeparator());
+            for (LoadResult result : results) {
+                writer.write(System.lineSeparator());
+                for (Map.Entry<String, Double> metric : result.metrics().entrySet()) {
+                    writer.write(String.format(Locale.ROOT, "%s.%s=%.2f%n", result.scenario(), metric.getKey(), metric.getValue()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Describes the machine and JVM the current run executes on.
+     */
+    static String referenceSetup() {
+        Runtime runtime = Runtime.getRuntime();
+        StringJoiner gcs = new StringJoiner("+");
+        ManagementFactory.getGarbageCollectorMXBeans().forEach(gc -> gcs.add(gc.getName()));
+        return String.format(Locale.ROOT, "%s %s, %s %s, %d active CPUs, max heap %d MB, GC %s",
+            System.getProperty("java.vm.name"), System.getProperty("java.version"),
+            System.getProperty("os.name"), System.getProperty("os.arch"),
+            runtime.availableProcessors(), runtime.maxMemory() / (1024 * 1024), gcs);
+    }
+
+    private String describe(String scenario, String metric, double measured, double baseline) {
+        return String.format(Locale.ROOT, "%s %s: measured %.2f, baseline %.2f (tolerance %.0f%%)",
+            scenario, metric, measured, baseline, tolerance * 100);
+    }
+}
@@ -0,0 +1,74 @@
+package com.aspiresys.fp_micro_gateway.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measurements of one scenario run.
+ *
+ * @param scenario the scenario name
+ * @param requests the number of measured requests
+ * @param errors the number of responses with an unexpected status or failed exchanges
+ * @param throughput measured requests per second
+ * @param p50Ms median latency in milliseconds
+ * @param p99Ms 99th percentile latency in milliseconds
+ * @param p999Ms 99.9th percentile latency in milliseconds
+ * @param allocatedBytesPerSecond bytes allocated by the gateway's request threads per second
+ * @param allocatedBytesPerRequest bytes allocated by the gateway's request threads per measured request
+ */
+record LoadResult(String scenario, int requests, int errors, double throughput,
+                  double p50Ms, double p99Ms, double p999Ms,
+                  double allocatedBytesPerSecond, double allocatedBytesPerRequest) {
+
+    static final String THROUGHPUT = "throughput";
+    static final String P50 = "p50-ms";
+    static final String P99 = "p99-ms";
+    static final String P999 = "p999-ms";
+    static final String ALLOCATION_RATE = "alloc-bytes-per-second";
+    static final String ALLOCATION = "alloc-bytes-per-request";
+
+    /**
+     * Builds a result from raw per-request latencies.
+     *
+     * @param latenciesNanos latency of each measured request; sorted in place
+     */
+    static LoadResult of(String scenario, long[] latenciesNanos, int errors, long elapsedNanos, long allocatedBytes) {
+        Arrays.sort(latenciesNanos);
+        int requests = latenciesNanos.length;
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+        return new LoadResult(scenario, requests, errors,
+            requests / elapsedSeconds,
+            percentileMs(latenciesNanos, 0.50),
+            percentileMs(latenciesNanos, 0.99),
+            percentileMs(latenciesNanos, 0.999),
+            allocatedBytes / elapsedSeconds,
+            (double) allocatedBytes / requests);
+    }
+
+    /**
+     * Returns the metrics keyed by their name in the baselines file.
+     */
+    Map<String, Double> metrics() {
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        metrics.put(THROUGHPUT, throughput);
+        metrics.put(P50, p50Ms);
+        metrics.put(P99, p99Ms);
+        metrics.put(P999, p999Ms);
+        metrics.put(ALLOCATION_RATE, allocatedBytesPerSecond);
+        metrics.put(ALLOCATION, allocatedBytesPerRequest);
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-24s %8d req %6d err %10.1f req/s  p50 %7.2f ms  p99 %7.2f ms  p999 %7.2f ms  %8.1f MB/s  %10.0f B/req",
+            scenario, requests, errors, throughput, p50Ms, p99Ms, p999Ms,
+            allocatedBytesPerSecond / (1024 * 1024), allocatedBytesPerRequest);
+    }
+
+    private static double percentileMs(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1_000_000.0;
+    }
+}
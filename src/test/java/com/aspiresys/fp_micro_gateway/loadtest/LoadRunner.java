@@ -0,0 +1,133 @@
+package com.aspiresys.fp_micro_gateway.loadtest;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop load generator.
+ * <p>
+ * {@code concurrency} worker threads each send a request, wait for the full response, and send
+ * the next one until the scenario's request count is reached.
+ * </p>
+ * <p>
+ * Allocation is sampled with {@link com.sun.management.ThreadMXBean} on the threads that do the
+ * gateway's request work. The project is packaged as a WAR with {@code spring-boot-starter-tomcat},
+ * so the embedded server is Tomcat even though the gateway is reactive:
+ * </p>
+ * <ul>
+ *   <li>Tomcat's worker threads ({@code http-nio-*-exec-*}) read the requests and run the
+ *   security chain, including rejected tokens and CORS preflights.</li>
+ *   <li>Reactor's {@code parallel-*} scheduler runs route matching and the gateway filters for
+ *   routed requests.</li>
+ *   <li>The reactor-netty event loops ({@code reactor-http-*}) carry the proxied calls to the
+ *   backends.</li>
+ * </ul>
+ * <p>
+ * Only the gateway uses Reactor in the test JVM; the load generator's {@code HttpClient} and the
+ * stub servers run on their own threads and are excluded. The difference is taken per thread, so a
+ * thread that dies between the two samples drops out instead of skewing the total.
+ * </p>
+ */
+class LoadRunner {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(REQUEST_TIMEOUT)
+        .build();
+
+    LoadResult run(LoadScenario scenario) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(scenario.concurrency());
+        try {
+            execute(workers, scenario, scenario.warmupRequests(), null, new AtomicInteger());
+            System.gc();
+
+            long[] latencies = new long[scenario.requests()];
+            AtomicInteger errors = new AtomicInteger();
+            Map<Long, Long> allocatedBefore = gatewayAllocatedBytes();
+            long start = System.nanoTime();
+            execute(workers, scenario, scenario.requests(), latencies, errors);
+            long elapsed = System.nanoTime() - start;
+            long allocated = allocatedSince(allocatedBefore);
+
+            return LoadResult.of(scenario.name(), latencies, errors.get(), elapsed, allocated);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void execute(ExecutorService workers, LoadScenario scenario, int requests, long[] latencies,
+                         AtomicInteger errors) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int worker = 0; worker < scenario.concurrency(); worker++) {
+            tasks.add(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < requests) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(scenario.request(index), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != scenario.expectedStatus()) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    }
+                    if (latencies != null) {
+                        latencies[index] = System.nanoTime() - sent;
+                    }
+                }
+                return null;
+            });
+        }
+        workers.invokeAll(tasks, 10, TimeUnit.MINUTES);
+        if (next.get() < requests) {
+            throw new IllegalStateException("Scenario " + scenario.name() + " did not finish in time");
+        }
+    }
+
+    /**
+     * Returns the bytes allocated so far by each gateway request thread, keyed by thread id.
+     */
+    private static Map<Long, Long> gatewayAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] ids = threads.getAllThreadIds();
+        ThreadInfo[] infos = threads.getThreadInfo(ids);
+        long[] allocated = threads.getThreadAllocatedBytes(ids);
+        Map<Long, Long> byThread = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (infos[i] != null && allocated[i] >= 0 && isGatewayThread(infos[i].getThreadName())) {
+                byThread.put(ids[i], allocated[i]);
+            }
+        }
+        return byThread;
+    }
+
+    private static long allocatedSince(Map<Long, Long> before) {
+        long total = 0;
+        for (Map.Entry<Long, Long> after : gatewayAllocatedBytes().entrySet()) {
+            total += after.getValue() - before.getOrDefault(after.getKey(), 0L);
+        }
+        return total;
+    }
+
+    private static boolean isGatewayThread(String name) {
+        return (name.startsWith("http-nio-") && name.contains("-exec-"))
+            || name.startsWith("parallel-")
+            || name.startsWith("reactor-http-");
+    }
+}
@@ -0,0 +1,34 @@
+package com.aspiresys.fp_micro_gateway.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.List;
+
+/**
+ * A scripted, reproducible load scenario.
+ * <p>
+ * Request {@code i} of a run is always {@code mix.get(i % mix.size())}, so every run sends the
+ * same requests in the same proportions. Warm-up requests are sent first and not measured.
+ * </p>
+ *
+ * @param name the scenario name, used as key in the baselines file
+ * @param concurrency the number of clients sending requests back to back
+ * @param warmupRequests the number of unmeasured requests sent first
+ * @param requests the number of measured requests
+ * @param expectedStatus the HTTP status every response must have
+ * @param mix the requests to cycle through
+ */
+record LoadScenario(String name, int concurrency, int warmupRequests, int requests, int expectedStatus,
+                    List<HttpRequest> mix) {
+
+    HttpRequest request(int index) {
+        return mix.get(index % mix.size());
+    }
+
+    /**
+     * Returns a copy of this scenario with warm-up and measured request counts multiplied by {@code scale}.
+     */
+    LoadScenario scaled(double scale) {
+        return new LoadScenario(name, concurrency, (int) Math.max(1, warmupRequests * scale),
+            (int) Math.max(concurrency, requests * scale), expectedStatus, mix);
+    }
+}
@@ -0,0 +1,52 @@
+package com.aspiresys.fp_micro_gateway.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal downstream service for load tests.
+ * <p>
+ * Answers every request with a small, fixed JSON body so that measurements reflect the gateway's
+ * own cost (security, filters, routing) rather than the backend's.
+ * </p>
+ */
+class StubBackend implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    StubBackend(String name) throws IOException {
+        byte[] response = ("{\"service\":\"" + name + "\",\"status\":\"OK\"}").getBytes(StandardCharsets.UTF_8);
+        this.executor = Executors.newFixedThreadPool(16);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 512);
+        server.createContext("/", exchange -> {
+            try (InputStream request = exchange.getRequestBody()) {
+                request.readAllBytes();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(response);
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String getUri() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
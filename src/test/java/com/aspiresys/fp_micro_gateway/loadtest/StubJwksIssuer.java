@@ -0,0 +1,98 @@
+package com.aspiresys.fp_micro_gateway.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Local JWT issuer for load tests.
+ * <p>
+ * Serves a JWK set at {@code /oauth2/jwks} and mints RS256 tokens signed with the matching key,
+ * so the gateway validates tokens exactly as it does in production without an auth server.
+ * </p>
+ */
+class StubJwksIssuer implements AutoCloseable {
+
+    private static final String KEY_ID = "load-test-key";
+
+    private final HttpServer server;
+    private final RSAKey signingKey;
+    private final RSAKey foreignKey;
+
+    StubJwksIssuer() throws IOException, JOSEException {
+        this.signingKey = new RSAKeyGenerator(2048).keyID(KEY_ID).generate();
+        // Same key id, different key: tokens signed with it fail signature verification
+        this.foreignKey = new RSAKeyGenerator(2048).keyID(KEY_ID).generate();
+
+        byte[] jwks = new JWKSet(signingKey.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/oauth2/jwks", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, jwks.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(jwks);
+            }
+        });
+        server.start();
+    }
+
+    String getIssuerUri() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    String getJwkSetUri() {
+        return getIssuerUri() + "/oauth2/jwks";
+    }
+
+    /**
+     * Mints a valid token for the subject with the given roles.
+     */
+    String token(String subject, String... roles) {
+        return sign(signingKey, subject, roles);
+    }
+
+    /**
+     * Mints a well-formed token whose signature does not match the published key.
+     */
+    String invalidToken(String subject, String... roles) {
+        return sign(foreignKey, subject, roles);
+    }
+
+    private String sign(RSAKey key, String subject, String... roles) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+            .issuer(getIssuerUri())
+            .subject(subject)
+            .claim("roles", List.of(roles))
+            .issueTime(Date.from(now))
+            .expirationTime(Date.from(now.plusSeconds(3600)))
+            .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(KEY_ID).build(), claims);
+        try {
+            jwt.sign(new RSASSASigner(key));
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not sign load test token", e);
+        }
+        return jwt.serialize();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,85 @@
+package com.aspiresys.fp_micro_gateway.quota;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UsageCountersTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-18T12:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void tryAcquireRejectsOnceDailyLimitIsReached() {
+        UsageCounters counters = new UsageCounters(CLOCK, 2);
+
+        assertEquals(1, counters.tryAcquire("user123", "order-service"));
+        assertEquals(0, counters.tryAcquire("user123", "order-service"));
+        assertEquals(-1, counters.tryAcquire("user123", "order-service"));
+        assertEquals(1, counters.tryAcquire("user123", "user-service"));
+
+        assertEquals(Map.of("order-service", 2L, "user-service", 1L), counters.getUsage("user123"));
+    }
+
+    @Test
+    void drainPendingReturnsOnlyNewCallsSinceLastDrain() {
+        UsageCounters counters = new UsageCounters(CLOCK, 100);
+        counters.tryAcquire("user123", "order-service");
+        counters.tryAcquire("user123", "order-service");
+
+        assertEquals(List.of(new UsageRecord(TODAY, "user123", "order-service", 2)), counters.drainPending());
+        assertTrue(counters.drainPending().isEmpty());
+
+        counters.tryAcquire("user123", "order-service");
+        assertEquals(List.of(new UsageRecord(TODAY, "user123", "order-service", 1)), counters.drainPending());
+        assertEquals(Map.of("order-service", 3L), counters.getUsage("user123"));
+    }
+
+    @Test
+    void flushedUsageIsRestoredAfterRestart() {
+        UsageStore store = new UsageStore(tempDir, new ObjectMapper().findAndRegisterModules());
+        UsageCounters counters = new UsageCounters(CLOCK, 3);
+        UsageFlusher flusher = new UsageFlusher(counters, store);
+        counters.tryAcquire("user123", "order-service");
+        flusher.flush();
+        counters.tryAcquire("user123", "order-service");
+        flusher.destroy();
+
+        UsageCounters restarted = new UsageCounters(CLOCK, 3);
+        new UsageFlusher(restarted, store).afterPropertiesSet();
+
+        assertEquals(Map.of("order-service", 2L), restarted.getUsage("user123"));
+        assertEquals(0, restarted.tryAcquire("user123", "order-service"));
+        assertEquals(-1, restarted.tryAcquire("user123", "order-service"));
+    }
+
+    @Test
+    void unreadableLinesAreSkippedWhenUsageIsRestored() throws Exception {
+        UsageStore store = new UsageStore(tempDir, new ObjectMapper().findAndRegisterModules());
+        store.append(List.of(new UsageRecord(TODAY, "user123", "order-service", 2)));
+        Path file = tempDir.resolve("usage-" + TODAY + ".jsonl");
+        // Última línea cortada por una caída durante el flush
+        Files.writeString(file, "not json\n{\"day\":\"2026-10-18\",\"subject\":\"user123\",\"rou", StandardOpenOption.APPEND);
+        store.append(List.of(new UsageRecord(TODAY, "user123", "order-service", 1)));
+
+        assertEquals(List.of(
+            new UsageRecord(TODAY, "user123", "order-service", 2),
+            new UsageRecord(TODAY, "user123", "order-service", 1)), store.load(TODAY));
+    }
+}